@@ -0,0 +1,101 @@
+package com.seeburger.tasks.qa.batchevaluator;
+
+/**
+ * Throughput and latency figures of a single
+ * {@link BigIntegerBatchEvaluator#evaluate} run.
+ */
+public final class BatchEvaluationReport {
+	private final long linesCount;
+	private final long failedLinesCount;
+	private final int threadsCount;
+	private final long elapsedNanos;
+	private final long evaluationNanos;
+	private final long maxChunkNanos;
+
+	private BatchEvaluationReport(Builder builder, int threadsCount, long elapsedNanos) {
+		this.linesCount = builder.linesCount;
+		this.failedLinesCount = builder.failedLinesCount;
+		this.evaluationNanos = builder.evaluationNanos;
+		this.maxChunkNanos = builder.maxChunkNanos;
+		this.threadsCount = threadsCount;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public final long getLinesCount() {
+		return this.linesCount;
+	}
+
+	public final long getFailedLinesCount() {
+		return this.failedLinesCount;
+	}
+
+	/**
+	 * @return the wall-clock time of the whole run, in nanoseconds
+	 */
+	public final long getElapsedNanos() {
+		return this.elapsedNanos;
+	}
+
+	/**
+	 * @return evaluated lines per second of wall-clock time
+	 */
+	public final double getThroughput() {
+		return this.elapsedNanos == 0 ? 0 : this.linesCount * 1_000_000_000d / this.elapsedNanos;
+	}
+
+	/**
+	 * @return the average time a worker spent evaluating a single line, in
+	 *         nanoseconds
+	 */
+	public final double getAverageLineNanos() {
+		return this.linesCount == 0 ? 0 : (double) this.evaluationNanos / this.linesCount;
+	}
+
+	/**
+	 * @return the longest time a worker spent evaluating a single chunk, in
+	 *         nanoseconds
+	 */
+	public final long getMaxChunkNanos() {
+		return this.maxChunkNanos;
+	}
+
+	/**
+	 * @return the share of the available worker time spent evaluating, between 0
+	 *         and 1; the rest was spent waiting for input or for the writer
+	 */
+	public final double getWorkerUtilization() {
+		return this.elapsedNanos == 0 ? 0
+				: (double) this.evaluationNanos / ((double) this.elapsedNanos * this.threadsCount);
+	}
+
+	@Override
+	public final String toString() {
+		return String.format(
+				"lines=%d, failed=%d, threads=%d, elapsed=%.3f s, throughput=%.0f lines/s, avgLatency=%.0f ns/line, maxChunkLatency=%.3f ms, utilization=%.0f%%",
+				this.linesCount, this.failedLinesCount, this.threadsCount, this.elapsedNanos / 1e9,
+				this.getThroughput(), this.getAverageLineNanos(), this.maxChunkNanos / 1e6,
+				this.getWorkerUtilization() * 100);
+	}
+
+	/**
+	 * Accumulates the per-chunk figures. Used by the writing thread only.
+	 */
+	static final class Builder {
+		private long linesCount;
+		private long failedLinesCount;
+		private long evaluationNanos;
+		private long maxChunkNanos;
+
+		final void addChunk(int lines, int failedLines, long chunkNanos) {
+			this.linesCount += lines;
+			this.failedLinesCount += failedLines;
+			this.evaluationNanos += chunkNanos;
+			this.maxChunkNanos = Math.max(this.maxChunkNanos, chunkNanos);
+		}
+
+		final BatchEvaluationReport build(int threadsCount, long elapsedNanos) {
+			return new BatchEvaluationReport(this, threadsCount, elapsedNanos);
+		}
+	}
+
+}
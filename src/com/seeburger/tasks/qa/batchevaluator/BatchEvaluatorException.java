@@ -0,0 +1,14 @@
+package com.seeburger.tasks.qa.batchevaluator;
+
+@SuppressWarnings("serial")
+public final class BatchEvaluatorException extends RuntimeException {
+
+	BatchEvaluatorException(String msg) {
+		super(msg);
+	}
+
+	BatchEvaluatorException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -0,0 +1,332 @@
+/**
+ * Evaluates files of BigInteger expressions of the form {@code a + b} or
+ * {@code a - b}, one expression per line.
+ * <p>
+ * The input file is streamed in chunks of lines by the calling thread. Every
+ * chunk is evaluated on a fixed pool of worker threads (one per available
+ * processor by default) and a dedicated writer thread writes the results to the
+ * output file in input order, one result per line. Reading, evaluating and
+ * writing therefore overlap instead of taking turns on the calling thread. A
+ * line which is not a valid expression produces a line starting with
+ * {@link #ERROR_PREFIX} followed by the offending line in square brackets and
+ * the reason, instead of failing the whole run.
+ * <p>
+ * Back-pressure: at most {@code 2 * threadsCount} chunks wait for the writer.
+ * When the limit is reached the reader blocks until the writer has taken the
+ * oldest chunk, so memory stays bounded regardless of the input size.
+ */
+
+package com.seeburger.tasks.qa.batchevaluator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.seeburger.tasks.qa.biginteger.BigInteger;
+import com.seeburger.tasks.qa.biginteger.BigIntegerException;
+
+public final class BigIntegerBatchEvaluator {
+
+	/**
+	 * Prefix of the output line produced for an expression that could not be
+	 * evaluated.
+	 */
+	public static final String ERROR_PREFIX = "ERROR: ";
+
+	/**
+	 * The number of lines evaluated as a single task unless specified otherwise.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	/**
+	 * Queued after the last chunk to tell the writer thread to stop.
+	 */
+	private static final Future<Chunk> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+	private final int threadsCount;
+	private final int chunkSize;
+
+	/**
+	 * Creates an evaluator using one worker thread per available processor.
+	 */
+	public BigIntegerBatchEvaluator() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param threadsCount
+	 *            the number of worker threads
+	 * @param chunkSize
+	 *            the number of lines evaluated as a single task
+	 * @throws BatchEvaluatorException
+	 *             {@code threadsCount} or {@code chunkSize} is not positive.
+	 */
+	public BigIntegerBatchEvaluator(int threadsCount, int chunkSize) throws BatchEvaluatorException {
+		if (threadsCount < 1 || chunkSize < 1) {
+			throw new BatchEvaluatorException("The threads count and the chunk size must be positive!");
+		}
+		this.threadsCount = threadsCount;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Evaluates every expression in {@code input} and writes the results to
+	 * {@code output} in the same order.
+	 *
+	 * @param input
+	 *            file with one expression per line
+	 * @param output
+	 *            file to which the results are written; created or overwritten.
+	 *            The results go to a temporary file next to it first, so
+	 *            {@code output} is only replaced if the run succeeds.
+	 * @return throughput and latency figures of the run
+	 * @throws BatchEvaluatorException
+	 *             {@code output} is the same file as {@code input}, the files
+	 *             cannot be read/written or the run is interrupted.
+	 */
+	public final BatchEvaluationReport evaluate(Path input, Path output) throws BatchEvaluatorException {
+		long startNanos = System.nanoTime();
+		WorkerThreadFactory threadFactory = new WorkerThreadFactory();
+		ExecutorService workers = Executors.newFixedThreadPool(this.threadsCount, threadFactory);
+		ExecutorService writerExecutor = Executors.newSingleThreadExecutor(threadFactory);
+		BlockingQueue<Future<Chunk>> inFlight = new ArrayBlockingQueue<>(2 * this.threadsCount);
+		BatchEvaluationReport.Builder report;
+		Path temporaryOutput = null;
+		boolean isCompleted = false;
+		try {
+			if (Files.exists(output) && Files.isSameFile(input, output)) {
+				throw new BatchEvaluatorException("The output file must not be the input file: " + output);
+			}
+			temporaryOutput = temporaryFileFor(output);
+			try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+					BufferedWriter writer = Files.newBufferedWriter(temporaryOutput, StandardCharsets.UTF_8,
+							StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				skipByteOrderMark(reader);
+				Future<BatchEvaluationReport.Builder> writing = writerExecutor
+						.submit(() -> writeChunks(inFlight, writer));
+				try {
+					String[] lines;
+					while ((lines = this.readChunk(reader)) != null) {
+						String[] chunkLines = lines;
+						enqueue(inFlight, workers.submit(() -> evaluateChunk(chunkLines)), writing);
+					}
+					enqueue(inFlight, END_OF_INPUT, writing);
+					report = writing.get();
+				} finally {
+					// stop the writer before the output is closed underneath it
+					writing.cancel(true);
+				}
+			}
+			Files.move(temporaryOutput, output, StandardCopyOption.REPLACE_EXISTING);
+			isCompleted = true;
+		} catch (IOException ioe) {
+			throw new BatchEvaluatorException("Batch evaluation failed: " + ioe, ioe);
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause() instanceof ExecutionException ? ee.getCause().getCause() : ee.getCause();
+			throw new BatchEvaluatorException((cause instanceof IOException ? "Batch evaluation failed: "
+					: "Chunk evaluation failed: ") + cause, cause);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new BatchEvaluatorException("Batch evaluation was interrupted!", ie);
+		} finally {
+			workers.shutdownNow();
+			writerExecutor.shutdownNow();
+			if (!isCompleted && temporaryOutput != null) {
+				deleteQuietly(temporaryOutput);
+			}
+		}
+		return report.build(this.threadsCount, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @return a not yet existing path in the directory of {@code output}, so that
+	 *         the final move is a rename within the same file system
+	 */
+	private static Path temporaryFileFor(Path output) {
+		Path target = output.toAbsolutePath();
+		return target.resolveSibling(
+				"." + target.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException ioe) {
+			// the run has already failed; the original failure is the one to report
+		}
+	}
+
+	/**
+	 * Skips the UTF-8 byte order mark some editors put at the beginning of a file,
+	 * so that it does not end up in the first operand.
+	 */
+	private static void skipByteOrderMark(BufferedReader reader) throws IOException {
+		reader.mark(1);
+		if (reader.read() != BYTE_ORDER_MARK) {
+			reader.reset();
+		}
+	}
+
+	/**
+	 * @return the next at most {@code chunkSize} lines, or {@code null} at the
+	 *         end of the input
+	 */
+	private final String[] readChunk(BufferedReader reader) throws IOException {
+		String[] lines = new String[this.chunkSize];
+		int count = 0;
+		String line;
+		while (count < lines.length && (line = reader.readLine()) != null) {
+			lines[count++] = line;
+		}
+		if (count == 0) {
+			return null;
+		}
+		if (count < lines.length) {
+			String[] trimmed = new String[count];
+			System.arraycopy(lines, 0, trimmed, 0, count);
+			return trimmed;
+		}
+		return lines;
+	}
+
+	/**
+	 * Hands a chunk over to the writer thread, waiting while the queue is full.
+	 * Gives up if the writer has stopped, which only happens when it has failed.
+	 */
+	private static void enqueue(BlockingQueue<Future<Chunk>> inFlight, Future<Chunk> chunk, Future<?> writing)
+			throws InterruptedException, ExecutionException {
+		while (!inFlight.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+			if (writing.isDone()) {
+				writing.get();
+				throw new BatchEvaluatorException("The writer stopped before the end of the input!");
+			}
+		}
+	}
+
+	/**
+	 * Runs on the writer thread. Writes the chunks in the order they were queued
+	 * until {@link #END_OF_INPUT} is reached.
+	 */
+	private static BatchEvaluationReport.Builder writeChunks(BlockingQueue<Future<Chunk>> inFlight,
+			BufferedWriter writer) throws IOException, InterruptedException, ExecutionException {
+		BatchEvaluationReport.Builder report = new BatchEvaluationReport.Builder();
+		Future<Chunk> future;
+		while ((future = inFlight.take()) != END_OF_INPUT) {
+			Chunk chunk = future.get();
+			for (String result : chunk.results) {
+				writer.write(result);
+				writer.newLine();
+			}
+			report.addChunk(chunk.results.length, chunk.failedCount, chunk.evaluationNanos);
+		}
+		return report;
+	}
+
+	private static Chunk evaluateChunk(String[] lines) {
+		long startNanos = System.nanoTime();
+		String[] results = new String[lines.length];
+		int failedCount = 0;
+		for (int i = 0; i < lines.length; i++) {
+			results[i] = evaluateLine(lines[i]);
+			if (results[i].startsWith(ERROR_PREFIX)) {
+				failedCount++;
+			}
+		}
+		return new Chunk(results, failedCount, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Evaluates a single {@code a + b} or {@code a - b} expression. Both operands
+	 * may carry their own sign, e.g. {@code -5 - -3}. A malformed line is reported
+	 * through the returned value rather than an exception, as a file may contain
+	 * millions of them.
+	 *
+	 * @param line
+	 *            the expression to evaluate
+	 * @return the value of the expression, or an error line starting with
+	 *         {@link #ERROR_PREFIX} which quotes {@code line} and says what is
+	 *         wrong with it
+	 */
+	static String evaluateLine(String line) {
+		int operatorIndex = findOperator(line);
+		if (operatorIndex < 0 || line.substring(operatorIndex + 1).trim().isEmpty()) {
+			return errorLine(line, "expression must be of the form 'a + b' or 'a - b'");
+		}
+		BigInteger left;
+		BigInteger right;
+		try {
+			left = new BigInteger(line.substring(0, operatorIndex));
+		} catch (BigIntegerException bie) {
+			return errorLine(line, "invalid left operand: " + bie.getMessage());
+		}
+		try {
+			right = new BigInteger(line.substring(operatorIndex + 1));
+		} catch (BigIntegerException bie) {
+			return errorLine(line, "invalid right operand: " + bie.getMessage());
+		}
+		return (line.charAt(operatorIndex) == '+' ? left.add(right) : left.subtract(right)).toString();
+	}
+
+	private static String errorLine(String line, String reason) {
+		return new StringBuilder(ERROR_PREFIX).append('[').append(line).append("] ").append(reason).toString();
+	}
+
+	/**
+	 * @return the index of the first '+' or '-' following the first ASCII digit
+	 *         of the expression, or -1 if there is none
+	 */
+	private static int findOperator(String expression) {
+		int i = 0;
+		while (i < expression.length() && (expression.charAt(i) < '0' || expression.charAt(i) > '9')) {
+			i++;
+		}
+		for (; i < expression.length(); i++) {
+			char c = expression.charAt(i);
+			if (c == '+' || c == '-') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static final class Chunk {
+		private final String[] results;
+		private final int failedCount;
+		private final long evaluationNanos;
+
+		private Chunk(String[] results, int failedCount, long evaluationNanos) {
+			this.results = results;
+			this.failedCount = failedCount;
+			this.evaluationNanos = evaluationNanos;
+		}
+	}
+
+	private static final class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadsCreated = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task) {
+			Thread thread = new Thread(task, "biginteger-batch-" + this.threadsCreated.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -19,6 +19,13 @@ public final class BigInteger implements Comparable<BigInteger> {
 	private final String absoluteValue;
 	private final boolean isNegative;
 
+	static {
+		if (BigIntegerMetrics.Switch.ENABLED) {
+			// registers the MBean before the first timed operation, not inside it
+			BigIntegerMetrics.init();
+		}
+	}
+
 	/**
 	 * Translates the decimal String representation of a BigInteger into a
 	 * BigInteger. The String representation consists of an optional minus sign
@@ -50,9 +57,9 @@ public final class BigInteger implements Comparable<BigInteger> {
 		}
 		value = value.trim();
 		if (((value.charAt(0) == '+' || value.charAt(0) == '-') && value.length() > 1)
-				|| Character.isDigit(value.charAt(0))) {
+				|| isDigit(value.charAt(0))) {
 			for (int i = 1; i < value.length(); i++) {
-				if (!Character.isDigit(value.charAt(i))) {
+				if (!isDigit(value.charAt(i))) {
 					throw new BigIntegerDefinitionException(
 							"BigInteger value must consist of an optional minus sign followed by a sequence of one or more decimal digits.");
 				}
@@ -64,11 +71,23 @@ public final class BigInteger implements Comparable<BigInteger> {
 		return value;
 	}
 
+	/**
+	 * Only the ASCII digits are accepted, since the digit values are calculated
+	 * as {@code c - '0'}. {@link Character#isDigit(char)} would also let through
+	 * other Unicode decimal digits such as U+0663 and turn them into wrong
+	 * numbers.
+	 *
+	 * @return {@code true} if {@code c} is one of '0' to '9'
+	 */
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
 	/**
 	 * @return absolute value (regardless of sign)
 	 */
 	private final String retrieveAbsoluteValue(String value) {
-		return !Character.isDigit(value.charAt(0)) ? new StringBuilder(value).deleteCharAt(0).toString() : value;
+		return !isDigit(value.charAt(0)) ? new StringBuilder(value).deleteCharAt(0).toString() : value;
 	}
 
 	/**
@@ -112,6 +131,18 @@ public final class BigInteger implements Comparable<BigInteger> {
 	 *             {@code addend} is null.
 	 */
 	public final BigInteger add(BigInteger addend) throws BigIntegerOperationException {
+		if (!BigIntegerMetrics.Switch.ENABLED) {
+			return this.addUninstrumented(addend);
+		}
+		long startNanos = System.nanoTime();
+		try {
+			return this.addUninstrumented(addend);
+		} finally {
+			BigIntegerMetrics.recordOperation(BigIntegerMetrics.Operation.ADD, this.operandDigits(addend), startNanos);
+		}
+	}
+
+	private final BigInteger addUninstrumented(BigInteger addend) throws BigIntegerOperationException {
 		if (addend.absoluteValue.equals("0")) {
 			return this;
 		}
@@ -177,6 +208,19 @@ public final class BigInteger implements Comparable<BigInteger> {
 	 *             {@code subtrahend} is null.
 	 */
 	public final BigInteger subtract(BigInteger subtrahend) throws BigIntegerOperationException {
+		if (!BigIntegerMetrics.Switch.ENABLED) {
+			return this.subtractUninstrumented(subtrahend);
+		}
+		long startNanos = System.nanoTime();
+		try {
+			return this.subtractUninstrumented(subtrahend);
+		} finally {
+			BigIntegerMetrics.recordOperation(BigIntegerMetrics.Operation.SUBTRACT, this.operandDigits(subtrahend),
+					startNanos);
+		}
+	}
+
+	private final BigInteger subtractUninstrumented(BigInteger subtrahend) throws BigIntegerOperationException {
 		if (subtrahend.absoluteValue.equals("0")) {
 			return this;
 		}
@@ -243,6 +287,16 @@ public final class BigInteger implements Comparable<BigInteger> {
 		return sb.reverse().toString();
 	}
 
+	/**
+	 * @return the digit count of the larger of this BigInteger and
+	 *         {@code operand}, used by the instrumentation only
+	 */
+	private final int operandDigits(BigInteger operand) {
+		return operand == null || operand.absoluteValue.length() < this.absoluteValue.length()
+				? this.absoluteValue.length()
+				: operand.absoluteValue.length();
+	}
+
 	/**
 	 * Compares this BigInteger with the specified BigInteger.
 	 *
@@ -5,6 +5,9 @@ public abstract class BigIntegerException extends RuntimeException {
 
 	BigIntegerException(String msg) {
 		super(msg);
+		if (BigIntegerMetrics.Switch.ENABLED) {
+			BigIntegerMetrics.recordException(this.getClass());
+		}
 	}
 
 }
\ No newline at end of file
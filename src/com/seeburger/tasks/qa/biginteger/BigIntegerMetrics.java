@@ -0,0 +1,266 @@
+/**
+ * Optional instrumentation of the BigInteger operations. Keeps per-operation
+ * invocation counters, operand-size and latency histograms and exception
+ * counters by exception type.
+ * <p>
+ * Instrumentation is switched on by starting the JVM with
+ * {@code -Dcom.seeburger.tasks.qa.biginteger.metrics=true}. The flag is read
+ * once into the {@code static final} constant {@link Switch#ENABLED}, so when
+ * it is off the JIT removes the instrumented branches and the arithmetic pays
+ * nothing for them. The flag lives in its own holder class so that checking it
+ * does not initialize the counters of this class. When it is on, the collected
+ * values are exposed through the {@link BigIntegerMetricsMXBean} registered
+ * under {@link #OBJECT_NAME} as soon as the BigInteger class is loaded, and
+ * through {@link #snapshot()}.
+ * <p>
+ * Histogram bucket {@code i} counts the values in the range
+ * {@code [2^(i-1), 2^i)}; bucket 0 counts the zeros and the last bucket also
+ * holds everything above its lower bound.
+ */
+
+package com.seeburger.tasks.qa.biginteger;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public final class BigIntegerMetrics {
+
+	/**
+	 * The system property which switches the instrumentation on.
+	 */
+	public static final String ENABLED_PROPERTY = "com.seeburger.tasks.qa.biginteger.metrics";
+
+	/**
+	 * The name under which the {@link BigIntegerMetricsMXBean} is registered.
+	 */
+	public static final String OBJECT_NAME = "com.seeburger.tasks.qa.biginteger:type=BigIntegerMetrics";
+
+	static final int DIGITS_BUCKETS = 32;
+	static final int LATENCY_BUCKETS = 48;
+
+	/**
+	 * The instrumented BigInteger operations.
+	 */
+	public enum Operation {
+		ADD, SUBTRACT
+	}
+
+	/**
+	 * Holds the instrumentation flag. Reading it loads only this class, so the
+	 * counter state below is never allocated while the instrumentation is off.
+	 */
+	static final class Switch {
+		static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+		private Switch() {
+		}
+	}
+
+	private static final Map<Operation, OperationCounters> COUNTERS = new EnumMap<>(Operation.class);
+	private static final ConcurrentHashMap<String, LongAdder> EXCEPTIONS = new ConcurrentHashMap<>();
+
+	static {
+		for (Operation operation : Operation.values()) {
+			COUNTERS.put(operation, new OperationCounters());
+		}
+		if (Switch.ENABLED) {
+			registerMBean();
+		}
+	}
+
+	private BigIntegerMetrics() {
+	}
+
+	/**
+	 * Does nothing by itself. Calling it initializes this class, which allocates
+	 * the counters and registers the MBean.
+	 */
+	static void init() {
+	}
+
+	/**
+	 * @return {@code true} if the instrumentation is switched on
+	 */
+	public static boolean isEnabled() {
+		return Switch.ENABLED;
+	}
+
+	/**
+	 * Records a single completed (or failed) invocation of an operation.
+	 *
+	 * @param operation
+	 *            the invoked operation
+	 * @param operandDigits
+	 *            the digit count of the larger operand
+	 * @param startNanos
+	 *            the {@link System#nanoTime()} taken before the invocation
+	 */
+	static void recordOperation(Operation operation, int operandDigits, long startNanos) {
+		long elapsedNanos = System.nanoTime() - startNanos;
+		OperationCounters counters = COUNTERS.get(operation);
+		counters.count.increment();
+		counters.totalNanos.add(elapsedNanos);
+		counters.operandDigits[bucketOf(operandDigits, DIGITS_BUCKETS)].increment();
+		counters.latency[bucketOf(elapsedNanos, LATENCY_BUCKETS)].increment();
+	}
+
+	/**
+	 * Records the creation of a BigInteger exception.
+	 *
+	 * @param type
+	 *            the exact type of the created exception
+	 */
+	static void recordException(Class<? extends BigIntegerException> type) {
+		EXCEPTIONS.computeIfAbsent(type.getSimpleName(), key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Takes a snapshot of all collected values. The counters keep running while
+	 * the snapshot is being taken, so the separate values are not guaranteed to
+	 * be mutually consistent.
+	 *
+	 * @return the current values of all counters
+	 */
+	public static BigIntegerMetricsSnapshot snapshot() {
+		Map<Operation, long[]> digits = new EnumMap<>(Operation.class);
+		Map<Operation, long[]> latency = new EnumMap<>(Operation.class);
+		Map<Operation, Long> counts = new EnumMap<>(Operation.class);
+		Map<Operation, Long> totalNanos = new EnumMap<>(Operation.class);
+		for (Map.Entry<Operation, OperationCounters> entry : COUNTERS.entrySet()) {
+			OperationCounters counters = entry.getValue();
+			counts.put(entry.getKey(), counters.count.sum());
+			totalNanos.put(entry.getKey(), counters.totalNanos.sum());
+			digits.put(entry.getKey(), sumAll(counters.operandDigits));
+			latency.put(entry.getKey(), sumAll(counters.latency));
+		}
+		return new BigIntegerMetricsSnapshot(counts, totalNanos, digits, latency, sumExceptions());
+	}
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	public static void reset() {
+		for (OperationCounters counters : COUNTERS.values()) {
+			counters.reset();
+		}
+		EXCEPTIONS.values().forEach(LongAdder::reset);
+	}
+
+	/**
+	 * @return the index of the power-of-two bucket holding {@code value}
+	 */
+	static int bucketOf(long value, int bucketsCount) {
+		int bucket = 64 - Long.numberOfLeadingZeros(value);
+		return bucket < bucketsCount ? bucket : bucketsCount - 1;
+	}
+
+	private static long[] sumAll(LongAdder[] adders) {
+		long[] sums = new long[adders.length];
+		for (int i = 0; i < adders.length; i++) {
+			sums[i] = adders[i].sum();
+		}
+		return sums;
+	}
+
+	private static Map<String, Long> sumExceptions() {
+		Map<String, Long> exceptions = new TreeMap<>();
+		EXCEPTIONS.forEach((type, count) -> exceptions.put(type, count.sum()));
+		return exceptions;
+	}
+
+	private static LongAdder[] newAdders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private static void registerMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanImpl(), new ObjectName(OBJECT_NAME));
+		} catch (JMException jme) {
+			// the metrics are still available through snapshot()
+			System.err.println("Could not register " + OBJECT_NAME + ": " + jme.getMessage());
+		}
+	}
+
+	private static final class OperationCounters {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder[] operandDigits = newAdders(DIGITS_BUCKETS);
+		private final LongAdder[] latency = newAdders(LATENCY_BUCKETS);
+
+		private void reset() {
+			this.count.reset();
+			this.totalNanos.reset();
+			for (LongAdder adder : this.operandDigits) {
+				adder.reset();
+			}
+			for (LongAdder adder : this.latency) {
+				adder.reset();
+			}
+		}
+	}
+
+	private static final class MXBeanImpl implements BigIntegerMetricsMXBean {
+
+		@Override
+		public long getAddCount() {
+			return COUNTERS.get(Operation.ADD).count.sum();
+		}
+
+		@Override
+		public long getAddTotalNanos() {
+			return COUNTERS.get(Operation.ADD).totalNanos.sum();
+		}
+
+		@Override
+		public long[] getAddOperandDigitsHistogram() {
+			return sumAll(COUNTERS.get(Operation.ADD).operandDigits);
+		}
+
+		@Override
+		public long[] getAddLatencyHistogram() {
+			return sumAll(COUNTERS.get(Operation.ADD).latency);
+		}
+
+		@Override
+		public long getSubtractCount() {
+			return COUNTERS.get(Operation.SUBTRACT).count.sum();
+		}
+
+		@Override
+		public long getSubtractTotalNanos() {
+			return COUNTERS.get(Operation.SUBTRACT).totalNanos.sum();
+		}
+
+		@Override
+		public long[] getSubtractOperandDigitsHistogram() {
+			return sumAll(COUNTERS.get(Operation.SUBTRACT).operandDigits);
+		}
+
+		@Override
+		public long[] getSubtractLatencyHistogram() {
+			return sumAll(COUNTERS.get(Operation.SUBTRACT).latency);
+		}
+
+		@Override
+		public Map<String, Long> getExceptionCounts() {
+			return sumExceptions();
+		}
+
+		@Override
+		public void reset() {
+			BigIntegerMetrics.reset();
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.seeburger.tasks.qa.biginteger;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link BigIntegerMetrics}. Registered under
+ * {@link BigIntegerMetrics#OBJECT_NAME} when the instrumentation is switched
+ * on.
+ */
+public interface BigIntegerMetricsMXBean {
+
+	long getAddCount();
+
+	long getAddTotalNanos();
+
+	long[] getAddOperandDigitsHistogram();
+
+	long[] getAddLatencyHistogram();
+
+	long getSubtractCount();
+
+	long getSubtractTotalNanos();
+
+	long[] getSubtractOperandDigitsHistogram();
+
+	long[] getSubtractLatencyHistogram();
+
+	/**
+	 * @return the number of created exceptions keyed by their simple class name
+	 */
+	Map<String, Long> getExceptionCounts();
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	void reset();
+
+}
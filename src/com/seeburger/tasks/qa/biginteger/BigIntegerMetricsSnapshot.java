@@ -0,0 +1,84 @@
+package com.seeburger.tasks.qa.biginteger;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.seeburger.tasks.qa.biginteger.BigIntegerMetrics.Operation;
+
+/**
+ * An immutable copy of the {@link BigIntegerMetrics} counters taken by
+ * {@link BigIntegerMetrics#snapshot()}.
+ */
+public final class BigIntegerMetricsSnapshot {
+	private final Map<Operation, Long> counts;
+	private final Map<Operation, Long> totalNanos;
+	private final Map<Operation, long[]> operandDigitsHistograms;
+	private final Map<Operation, long[]> latencyHistograms;
+	private final Map<String, Long> exceptionCounts;
+
+	BigIntegerMetricsSnapshot(Map<Operation, Long> counts, Map<Operation, Long> totalNanos,
+			Map<Operation, long[]> operandDigitsHistograms, Map<Operation, long[]> latencyHistograms,
+			Map<String, Long> exceptionCounts) {
+		this.counts = counts;
+		this.totalNanos = totalNanos;
+		this.operandDigitsHistograms = operandDigitsHistograms;
+		this.latencyHistograms = latencyHistograms;
+		this.exceptionCounts = Collections.unmodifiableMap(exceptionCounts);
+	}
+
+	/**
+	 * @return how many times {@code operation} has been invoked
+	 */
+	public final long getCount(Operation operation) {
+		return this.counts.get(operation);
+	}
+
+	/**
+	 * @return the total time spent in {@code operation}, in nanoseconds
+	 */
+	public final long getTotalNanos(Operation operation) {
+		return this.totalNanos.get(operation);
+	}
+
+	/**
+	 * @return the power-of-two histogram of the larger operand's digit count
+	 */
+	public final long[] getOperandDigitsHistogram(Operation operation) {
+		return this.operandDigitsHistograms.get(operation).clone();
+	}
+
+	/**
+	 * @return the power-of-two histogram of the latency in nanoseconds
+	 */
+	public final long[] getLatencyHistogram(Operation operation) {
+		return this.latencyHistograms.get(operation).clone();
+	}
+
+	/**
+	 * @return the number of created exceptions keyed by their simple class name
+	 */
+	public final Map<String, Long> getExceptionCounts() {
+		return this.exceptionCounts;
+	}
+
+	/**
+	 * @param type
+	 *            the exception type
+	 * @return the number of created exceptions of the given type
+	 */
+	public final long getExceptionCount(Class<? extends BigIntegerException> type) {
+		return this.exceptionCounts.getOrDefault(type.getSimpleName(), 0L);
+	}
+
+	@Override
+	public final String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Operation operation : Operation.values()) {
+			long count = this.getCount(operation);
+			sb.append(operation).append(": count=").append(count).append(", avgNanos=")
+					.append(count == 0 ? 0 : this.getTotalNanos(operation) / count).append('\n');
+		}
+		return sb.append("exceptions: ").append(this.exceptionCounts).toString();
+	}
+
+}
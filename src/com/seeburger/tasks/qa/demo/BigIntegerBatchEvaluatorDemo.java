@@ -0,0 +1,43 @@
+package com.seeburger.tasks.qa.demo;
+
+import java.nio.file.Paths;
+
+import com.seeburger.tasks.qa.batchevaluator.BatchEvaluationReport;
+import com.seeburger.tasks.qa.batchevaluator.BatchEvaluatorException;
+import com.seeburger.tasks.qa.batchevaluator.BigIntegerBatchEvaluator;
+
+/**
+ * Usage: {@code BigIntegerBatchEvaluatorDemo <input> <output> [threads] [chunkSize]}
+ */
+final class BigIntegerBatchEvaluatorDemo {
+	private static final String USAGE = "Usage: BigIntegerBatchEvaluatorDemo <input> <output> [threads] [chunkSize]";
+
+	public static void main(String[] args) {
+		if (args.length < 2 || args.length > 4) {
+			System.out.println(USAGE);
+			System.exit(2);
+		}
+		int threadsCount = Runtime.getRuntime().availableProcessors();
+		int chunkSize = BigIntegerBatchEvaluator.DEFAULT_CHUNK_SIZE;
+		try {
+			if (args.length > 2) {
+				threadsCount = Integer.parseInt(args[2]);
+			}
+			if (args.length > 3) {
+				chunkSize = Integer.parseInt(args[3]);
+			}
+		} catch (NumberFormatException nfe) {
+			System.out.println(USAGE);
+			System.exit(2);
+		}
+		try {
+			BigIntegerBatchEvaluator evaluator = new BigIntegerBatchEvaluator(threadsCount, chunkSize);
+			BatchEvaluationReport report = evaluator.evaluate(Paths.get(args[0]), Paths.get(args[1]));
+			System.out.println(report);
+		} catch (BatchEvaluatorException bee) {
+			System.out.println(bee.getMessage());
+			System.exit(1);
+		}
+	}
+
+}